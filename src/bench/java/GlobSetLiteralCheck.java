@@ -0,0 +1,99 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/*
+ * Checks that GlobSet keeps the meaning literal name/path entries had before glob support:
+ * on random entry sets and paths it must match exactly what the previous matcher matched.
+ * Half of the sets use names with '[', ']' and '?' (e.g. "[id].tsx"), which stay literal.
+ * Entries with '*' or starting with '!' or '/' are globs by design and are left out.
+ * Not part of the build; run it against the compiled classes:
+ *
+ *   mvn -q compile
+ *   java -cp target/classes src/bench/java/GlobSetLiteralCheck.java
+ *
+ * Exits with status 1 when there are mismatches.
+ */
+public class GlobSetLiteralCheck {
+
+    private static final String[] PLAIN = {"target", "src", "main", "docs", "out", "x", "pages", "app.js"};
+    private static final String[] WITH_META = {
+            "target", "src", "main", "docs", "out", "x", "pages", "app.js",
+            "[id].tsx", "[slug].js", "c[1]", "[a-z]", "[!x]", "what?.txt", "?", "i.tsx", "d.tsx", "s.js"
+    };
+
+    private static final int SETS = 2000;
+    private static final int PATHS_PER_SET = 200;
+
+    public static void main(String[] args) {
+        Random r = new Random(args.length > 0 ? Long.parseLong(args[0]) : 1);
+        int mismatches = 0;
+        long checked = 0;
+        for (int t = 0; t < SETS && mismatches < 20; t++) {
+            // Every other set uses names with '[', ']' and '?'
+            String[] segments = t % 2 == 0 ? PLAIN : WITH_META;
+            List<String> entries = new ArrayList<>();
+            int count = 1 + r.nextInt(5);
+            for (int k = 0; k < count; k++) {
+                String e = path(r, segments, 1 + r.nextInt(3));
+                if (r.nextInt(4) == 0) e += "/";
+                entries.add(e);
+            }
+            GlobSet set = GlobSet.compile(entries);
+            for (int k = 0; k < PATHS_PER_SET; k++) {
+                // Paths near the entries, so that matches and near-misses are both common
+                String rel = r.nextBoolean() ? path(r, segments, 1 + r.nextInt(4)) : near(r, segments, entries);
+                String name = rel.substring(rel.lastIndexOf('/') + 1);
+                boolean expected = previousMatcher(rel, name, new HashSet<>(entries));
+                // Literal entries do not depend on the directory flag
+                for (boolean dir : new boolean[]{false, true}) {
+                    checked++;
+                    boolean actual = set.matches(rel, dir);
+                    if (actual != expected) {
+                        mismatches++;
+                        System.out.println("MISMATCH entries=" + entries + " path=" + rel + (dir ? " (dir)" : "") + " expected=" + expected);
+                    }
+                }
+            }
+        }
+        System.out.println(checked + " checks, " + mismatches + " mismatches");
+        if (mismatches > 0) System.exit(1);
+    }
+
+    private static String path(Random r, String[] segments, int count) {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) b.append('/');
+            b.append(segments[r.nextInt(segments.length)]);
+        }
+        return b.toString();
+    }
+
+    private static String near(Random r, String[] segments, List<String> entries) {
+        String e = entries.get(r.nextInt(entries.size()));
+        if (e.endsWith("/")) e = e.substring(0, e.length() - 1);
+        switch (r.nextInt(4)) {
+            case 0: return e;
+            case 1: return e + "/" + path(r, segments, 1 + r.nextInt(2));
+            case 2: return path(r, segments, 1 + r.nextInt(2)) + "/" + e;
+            default: return e + "x";
+        }
+    }
+
+    // Name/path matching as it was before GlobSet
+    private static boolean previousMatcher(String relativePath, String name, Set<String> patterns) {
+        if (patterns == null || patterns.isEmpty()) return false;
+        if (patterns.contains(name)) return true;
+        String rel = relativePath.replace("\\", "/");
+        if (patterns.contains(rel)) return true;
+        for (String p : patterns) {
+            if (p == null || p.isEmpty()) continue;
+            String norm = p.replace("\\", "/");
+            if (rel.equals(norm)) return true;
+            if (rel.startsWith(norm.endsWith("/") ? norm : norm + "/")) return true;
+        }
+        return false;
+    }
+}
@@ -1,33 +1,60 @@
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class AnalyzerConfig {
     // Include lists
     private Set<String> includeExtensions = new HashSet<>();
-    private Set<String> includeNamesOrPaths = new HashSet<>();
+    // Name/path lists are ordered: with '!' negation the last matching entry wins
+    private List<String> includeNamesOrPaths = new ArrayList<>();
 
     // Exclude lists
     private Set<String> excludeExtensions = new HashSet<>();
-    private Set<String> excludeNamesOrPaths = new HashSet<>();
+    private List<String> excludeNamesOrPaths = new ArrayList<>();
 
     // Backward-compat: legacy key "excludeNames"
     private Set<String> excludeNames = new HashSet<>();
 
+    // Output format: "markdown" (default), "jsonl" or "bin"
+    private String outputFormat = "markdown";
+
+    // Content transforms per extension (with dot), e.g. ".java": [stripComments, collapseBlankLines]
+    private Map<String, List<String>> transforms = new HashMap<>();
+
+    // Secret redaction: literal, "prefix*" and "prefix**" patterns, plus optional entropy check
+    private Set<String> redactPatterns = new HashSet<>();
+    private boolean redactHighEntropy = false;
+
     public AnalyzerConfig() {}
 
     public Set<String> getIncludeExtensions() { return includeExtensions; }
     public void setIncludeExtensions(Set<String> includeExtensions) { this.includeExtensions = includeExtensions != null ? includeExtensions : new HashSet<>(); }
 
-    public Set<String> getIncludeNamesOrPaths() { return includeNamesOrPaths; }
-    public void setIncludeNamesOrPaths(Set<String> includeNamesOrPaths) { this.includeNamesOrPaths = includeNamesOrPaths != null ? includeNamesOrPaths : new HashSet<>(); }
+    public List<String> getIncludeNamesOrPaths() { return includeNamesOrPaths; }
+    public void setIncludeNamesOrPaths(List<String> includeNamesOrPaths) { this.includeNamesOrPaths = includeNamesOrPaths != null ? includeNamesOrPaths : new ArrayList<>(); }
 
     public Set<String> getExcludeExtensions() { return excludeExtensions; }
     public void setExcludeExtensions(Set<String> excludeExtensions) { this.excludeExtensions = excludeExtensions != null ? excludeExtensions : new HashSet<>(); }
 
-    public Set<String> getExcludeNamesOrPaths() { return excludeNamesOrPaths; }
-    public void setExcludeNamesOrPaths(Set<String> excludeNamesOrPaths) { this.excludeNamesOrPaths = excludeNamesOrPaths != null ? excludeNamesOrPaths : new HashSet<>(); }
+    public List<String> getExcludeNamesOrPaths() { return excludeNamesOrPaths; }
+    public void setExcludeNamesOrPaths(List<String> excludeNamesOrPaths) { this.excludeNamesOrPaths = excludeNamesOrPaths != null ? excludeNamesOrPaths : new ArrayList<>(); }
 
     public Set<String> getExcludeNames() { return excludeNames; }
     public void setExcludeNames(Set<String> excludeNames) { this.excludeNames = excludeNames != null ? excludeNames : new HashSet<>(); }
+
+    public String getOutputFormat() { return outputFormat; }
+    public void setOutputFormat(String outputFormat) { this.outputFormat = outputFormat != null ? outputFormat : "markdown"; }
+
+    public Map<String, List<String>> getTransforms() { return transforms; }
+    public void setTransforms(Map<String, List<String>> transforms) { this.transforms = transforms != null ? transforms : new HashMap<>(); }
+
+    public Set<String> getRedactPatterns() { return redactPatterns; }
+    public void setRedactPatterns(Set<String> redactPatterns) { this.redactPatterns = redactPatterns != null ? redactPatterns : new HashSet<>(); }
+
+    public boolean isRedactHighEntropy() { return redactHighEntropy; }
+    public void setRedactHighEntropy(boolean redactHighEntropy) { this.redactHighEntropy = redactHighEntropy; }
 }
 
@@ -0,0 +1,50 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Length-prefixed record stream, all integers big-endian:
+ *
+ *   header: "CTXG" (4 bytes), version (1 byte, currently 1)
+ *   record: int32 pathLength, path (UTF-8)
+ *           int32 languageLength, language (UTF-8)
+ *           32 bytes SHA-256 of content
+ *           int64 contentLength, content (raw bytes)
+ *
+ * Records follow each other until end of stream.
+ */
+public class BinaryRenderer implements OutputRenderer {
+
+    static final byte[] MAGIC = {'C', 'T', 'X', 'G'};
+    static final int VERSION = 1;
+
+    private final DataOutputStream out;
+
+    public BinaryRenderer(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    @Override
+    public void begin(ProjectSource source, AnalyzerConfig config, Selection selection, String profileName) throws IOException {
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    @Override
+    public void file(String relativePath, String language, byte[] content) throws IOException {
+        writeBytes(relativePath.getBytes(StandardCharsets.UTF_8));
+        writeBytes(language.getBytes(StandardCharsets.UTF_8));
+        out.write(Util.sha256(content));
+        out.writeLong(content.length);
+        out.write(content);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeBytes(byte[] b) throws IOException {
+        out.writeInt(b.length);
+        out.write(b);
+    }
+}
@@ -72,13 +72,13 @@ public class ConfigStore {
             if (cfg == null) cfg = new AnalyzerConfig();
             // normalize nullable fields
             if (cfg.getIncludeExtensions() == null) cfg.setIncludeExtensions(new java.util.HashSet<>());
-            if (cfg.getIncludeNamesOrPaths() == null) cfg.setIncludeNamesOrPaths(new java.util.HashSet<>());
+            if (cfg.getIncludeNamesOrPaths() == null) cfg.setIncludeNamesOrPaths(new java.util.ArrayList<>());
             if (cfg.getExcludeExtensions() == null) cfg.setExcludeExtensions(new java.util.HashSet<>());
-            if (cfg.getExcludeNamesOrPaths() == null) cfg.setExcludeNamesOrPaths(new java.util.HashSet<>());
+            if (cfg.getExcludeNamesOrPaths() == null) cfg.setExcludeNamesOrPaths(new java.util.ArrayList<>());
             if (cfg.getExcludeNames() != null && !cfg.getExcludeNames().isEmpty()) {
-                cfg.getExcludeNamesOrPaths().addAll(cfg.getExcludeNames());
+                cfg.getExcludeNamesOrPaths().addAll(0, cfg.getExcludeNames());
             }
-            cfg.getExcludeNamesOrPaths().add("project_structure.md");
+            OutputFormat.addOutputFileNames(cfg.getExcludeNamesOrPaths());
             return cfg;
         } catch (Exception e) {
             System.err.println("Failed to load profile '" + name + "': " + e.getMessage());
@@ -0,0 +1,479 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+
+/*
+ * Per-language content filter applied between reading a file and rendering it.
+ *
+ * All enabled steps run fused in one forward pass over the UTF-8 bytes. Comment markers
+ * and quotes are ASCII, so multi-byte sequences never match them and pass through as-is.
+ * The output is never longer than the input, so it is written into one array of the
+ * same size and no per-line objects are created.
+ */
+public final class ContentTransform {
+
+    public static final String STRIP_COMMENTS = "stripComments";
+    public static final String COLLAPSE_BLANK_LINES = "collapseBlankLines";
+    public static final String DROP_LICENSE_HEADER = "dropLicenseHeader";
+
+    // Comment and string syntax of a language family
+    private static final class Syntax {
+        final byte[] lineMarker;
+        final boolean lineMarkerNeedsSpace; // '#' only starts a comment at line start or after whitespace
+        final byte[] blockOpen;
+        final byte[] blockClose;
+        final byte[] quotes;
+        final boolean tripleQuotes;
+        final byte multilineQuote;
+        final boolean cssUrls;              // no line comment inside an unquoted url(...)
+        final boolean regexLiterals;        // JS/TS: a '/' where an expression starts opens a regex
+
+        Syntax(String lineMarker, boolean lineMarkerNeedsSpace, String blockOpen, String blockClose,
+               String quotes, boolean tripleQuotes, char multilineQuote) {
+            this(lineMarker, lineMarkerNeedsSpace, blockOpen, blockClose, quotes, tripleQuotes, multilineQuote, false, false);
+        }
+
+        Syntax(String lineMarker, boolean lineMarkerNeedsSpace, String blockOpen, String blockClose,
+               String quotes, boolean tripleQuotes, char multilineQuote, boolean cssUrls, boolean regexLiterals) {
+            this.lineMarker = bytes(lineMarker);
+            this.lineMarkerNeedsSpace = lineMarkerNeedsSpace;
+            this.blockOpen = bytes(blockOpen);
+            this.blockClose = bytes(blockClose);
+            this.quotes = bytes(quotes);
+            this.tripleQuotes = tripleQuotes;
+            this.multilineQuote = (byte) multilineQuote;
+            this.cssUrls = cssUrls;
+            this.regexLiterals = regexLiterals;
+        }
+
+        private static byte[] bytes(String s) {
+            return s == null ? null : s.getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static final Syntax C_LIKE = new Syntax("//", false, "/*", "*/", "\"'`", true, '`');
+    private static final Syntax JS = new Syntax("//", false, "/*", "*/", "\"'`", false, '`', false, true);
+    private static final Syntax CSS = new Syntax(null, false, "/*", "*/", "\"'", false, '\0');
+    private static final Syntax SCSS = new Syntax("//", false, "/*", "*/", "\"'", false, '\0', true, false);
+    private static final Syntax HASH = new Syntax("#", true, null, null, "\"'", true, '\0');
+    private static final Syntax SQL = new Syntax("--", false, "/*", "*/", "\"'", false, '\0');
+    private static final Syntax MARKUP = new Syntax(null, false, "<!--", "-->", "", false, '\0');
+    private static final Syntax NONE = new Syntax(null, false, null, null, "", false, '\0');
+
+    private static final byte[][] LICENSE_WORDS = {
+            "copyright".getBytes(StandardCharsets.US_ASCII),
+            "licen".getBytes(StandardCharsets.US_ASCII) // license, licence, SPDX-License-Identifier
+    };
+
+    private static final byte[] PACKAGE = "package".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IMPORT = "import".getBytes(StandardCharsets.US_ASCII);
+
+    // Keywords after which a '/' starts a regex literal rather than a division
+    private static final Set<String> REGEX_KEYWORDS = Set.of(
+            "return", "typeof", "instanceof", "in", "of", "new", "delete", "void", "throw",
+            "case", "do", "else", "yield", "await");
+
+    private static final int CODE = 0, LINE_COMMENT = 1, BLOCK_COMMENT = 2, STRING = 3;
+
+    private final Syntax syntax;
+    private final boolean stripComments;
+    private final boolean collapseBlankLines;
+    private final boolean dropLicenseHeader;
+
+    private ContentTransform(Syntax syntax, boolean stripComments, boolean collapseBlankLines, boolean dropLicenseHeader) {
+        this.syntax = syntax;
+        this.stripComments = stripComments;
+        this.collapseBlankLines = collapseBlankLines;
+        this.dropLicenseHeader = dropLicenseHeader;
+    }
+
+    // Returns null when no transform is configured for the file's extension
+    public static ContentTransform forFile(String fileName, AnalyzerConfig config) {
+        String ext = Util.extensionOf(fileName);
+        if (ext.isEmpty() || config.getTransforms().isEmpty()) return null;
+        Collection<String> steps = config.getTransforms().get(ext);
+        if (steps == null || steps.isEmpty()) return null;
+        return new ContentTransform(syntaxFor(ext),
+                steps.contains(STRIP_COMMENTS),
+                steps.contains(COLLAPSE_BLANK_LINES),
+                steps.contains(DROP_LICENSE_HEADER));
+    }
+
+    public static boolean isKnownStep(String step) {
+        return STRIP_COMMENTS.equals(step) || COLLAPSE_BLANK_LINES.equals(step) || DROP_LICENSE_HEADER.equals(step);
+    }
+
+    private static Syntax syntaxFor(String ext) {
+        switch (ext.toLowerCase(Locale.ROOT)) {
+            case ".java": case ".kt": case ".kts": case ".gradle": case ".groovy": case ".scala":
+            case ".c": case ".h": case ".cc": case ".cpp": case ".hpp": case ".cs":
+            case ".go": case ".rs": case ".swift": case ".dart": case ".php":
+                return C_LIKE;
+            case ".js": case ".jsx": case ".mjs": case ".cjs": case ".ts": case ".tsx":
+                return JS;
+            case ".css":
+                return CSS;
+            case ".scss": case ".less":
+                return SCSS;
+            case ".py": case ".rb": case ".pl": case ".sh": case ".bash": case ".zsh":
+            case ".yaml": case ".yml": case ".toml": case ".properties": case ".r":
+                return HASH;
+            case ".sql":
+                return SQL;
+            case ".xml": case ".html": case ".htm": case ".xhtml": case ".svg": case ".vue": case ".md":
+                return MARKUP;
+            default:
+                return NONE;
+        }
+    }
+
+    public byte[] apply(byte[] in) {
+        int n = in.length;
+        byte[] out = new byte[n];
+        int o = 0;
+
+        int skipFrom = -1, skipTo = -1;
+        if (dropLicenseHeader) {
+            int start = 0;
+            if (n > 1 && in[0] == '#' && in[1] == '!') {
+                // Keep the shebang line, look for the header right after it
+                while (start < n && in[start] != '\n') start++;
+                if (start < n) start++;
+            }
+            int end = licenseHeaderEnd(in, start);
+            if (end > start) {
+                skipFrom = start;
+                skipTo = end;
+            }
+        }
+
+        int state = CODE;
+        byte quote = 0;
+        boolean triple = false;
+
+        int lineStart = 0;          // output index where the current line begins
+        int wsStart = -1;           // output index of the trailing whitespace run, -1 if none
+        boolean lineBlank = true;   // nothing but whitespace on the current output line
+        boolean commentOnLine = false;
+        boolean inUrl = false;      // inside an unquoted CSS url(...), where "//" is part of the value
+        boolean seenContent = false;
+        int blankRun = 0;
+        int commentIn = -1, commentOut = -1; // where the current block comment starts in input and output
+
+        int i = 0;
+        while (i < n) {
+            if (i == skipFrom) {
+                i = skipTo;
+                continue;
+            }
+            byte b = in[i];
+
+            if (state == LINE_COMMENT) {
+                if (b == '\n') {
+                    state = CODE;
+                    continue; // the newline is handled as code
+                }
+                i++;
+                continue;
+            }
+
+            if (state == BLOCK_COMMENT) {
+                if (startsWith(in, i, syntax.blockClose)) {
+                    i += syntax.blockClose.length;
+                    state = CODE;
+                    // Keep tokens on either side of an inline comment apart
+                    if (o > lineStart && !isSpace(out[o - 1]) && i < n && !isSpace(in[i]) && in[i] != '\n') {
+                        out[o++] = ' ';
+                        if (wsStart < 0) wsStart = o - 1;
+                    }
+                } else {
+                    i++;
+                }
+                continue;
+            }
+
+            if (state == STRING) {
+                if (b == '\\' && i + 1 < n && in[i + 1] != '\n') {
+                    out[o++] = b;
+                    out[o++] = in[i + 1];
+                    i += 2;
+                    wsStart = -1;
+                    continue;
+                }
+                if (b == '\n') {
+                    if (triple || quote == syntax.multilineQuote) {
+                        // Line breaks inside multi-line literals are content: never trimmed or collapsed
+                        out[o++] = b;
+                        i++;
+                        lineStart = o;
+                        wsStart = -1;
+                        lineBlank = false;
+                        commentOnLine = false;
+                        continue;
+                    }
+                    // An unterminated single-line literal ends at the line break
+                    state = CODE;
+                    continue;
+                }
+                if (b == quote) {
+                    if (!triple) {
+                        state = CODE;
+                    } else if (i + 2 < n && in[i + 1] == quote && in[i + 2] == quote) {
+                        out[o++] = b;
+                        out[o++] = b;
+                        i += 2;
+                        state = CODE;
+                    }
+                }
+                out[o++] = b;
+                i++;
+                wsStart = -1;
+                continue;
+            }
+
+            // CODE
+            if (b == '\n') {
+                // Trimming can drop the '\r' of a CRLF line; it is put back before the '\n'
+                boolean crlf = i > 0 && in[i - 1] == '\r';
+                if (commentOnLine && wsStart >= 0) o = wsStart;
+                if (lineBlank) {
+                    if (commentOnLine) {
+                        // The line held only a comment: remove it completely
+                        o = lineStart;
+                    } else if (collapseBlankLines) {
+                        o = lineStart;
+                        if (seenContent && blankRun == 0) {
+                            o = newline(out, o, crlf);
+                            blankRun++;
+                        }
+                    } else {
+                        o = newline(out, o, crlf);
+                    }
+                } else {
+                    o = newline(out, o, crlf);
+                    blankRun = 0;
+                    seenContent = true;
+                }
+                i++;
+                lineStart = o;
+                wsStart = -1;
+                lineBlank = true;
+                commentOnLine = false;
+                inUrl = false;
+                continue;
+            }
+
+            if (syntax.cssUrls) {
+                if (b == ')') {
+                    inUrl = false;
+                } else if (b == '(' && i >= 3 && (in[i - 3] | 0x20) == 'u' && (in[i - 2] | 0x20) == 'r' && (in[i - 1] | 0x20) == 'l') {
+                    inUrl = true;
+                }
+            }
+
+            if (stripComments) {
+                if (syntax.lineMarker != null && !inUrl && startsWith(in, i, syntax.lineMarker)
+                        && (!syntax.lineMarkerNeedsSpace || i == 0 || isSpace(in[i - 1]) || in[i - 1] == '\n')
+                        && !(i == 0 && n > 1 && in[1] == '!')) {
+                    state = LINE_COMMENT;
+                    commentOnLine = true;
+                    i += syntax.lineMarker.length;
+                    continue;
+                }
+                if (syntax.blockOpen != null && startsWith(in, i, syntax.blockOpen)) {
+                    state = BLOCK_COMMENT;
+                    commentOnLine = true;
+                    commentIn = i;
+                    commentOut = o;
+                    i += syntax.blockOpen.length;
+                    continue;
+                }
+            }
+
+            if (syntax.regexLiterals && b == '/') {
+                int end = regexEnd(in, i, out, o);
+                if (end > i) {
+                    // Copied as is: "/*", "//" and quotes inside a regex are not syntax
+                    System.arraycopy(in, i, out, o, end - i);
+                    o += end - i;
+                    i = end;
+                    wsStart = -1;
+                    lineBlank = false;
+                    continue;
+                }
+            }
+
+            if (isQuote(b)) {
+                state = STRING;
+                quote = b;
+                triple = syntax.tripleQuotes && b != syntax.multilineQuote
+                        && i + 2 < n && in[i + 1] == b && in[i + 2] == b;
+                if (triple) {
+                    out[o++] = b;
+                    out[o++] = b;
+                    i += 2;
+                } else if (i + 1 < n && in[i + 1] == b) {
+                    // Empty literal: stay in code
+                    out[o++] = b;
+                    i++;
+                    state = CODE;
+                }
+                out[o++] = b;
+                i++;
+                wsStart = -1;
+                lineBlank = false;
+                continue;
+            }
+
+            out[o++] = b;
+            i++;
+            if (isSpace(b)) {
+                if (wsStart < 0) wsStart = o - 1;
+            } else {
+                wsStart = -1;
+                lineBlank = false;
+            }
+        }
+
+        if (state == BLOCK_COMMENT) {
+            // Never closed: probably not a comment after all, so keep the original bytes
+            o = commentOut;
+            System.arraycopy(in, commentIn, out, o, n - commentIn);
+            o += n - commentIn;
+            return o == n ? out : Arrays.copyOf(out, o);
+        }
+
+        // Last line without a terminating newline
+        if (commentOnLine && wsStart >= 0) o = wsStart;
+        if (lineBlank && (commentOnLine || collapseBlankLines)) o = lineStart;
+
+        return o == n ? out : Arrays.copyOf(out, o);
+    }
+
+    // End (exclusive) of a leading comment block that mentions a license, or 'start' if there is none
+    private int licenseHeaderEnd(byte[] in, int start) {
+        int n = in.length;
+        int i = start;
+        while (i < n && (isSpace(in[i]) || in[i] == '\n')) i++;
+        int bodyStart = i;
+
+        if (syntax.blockOpen != null && startsWith(in, i, syntax.blockOpen)) {
+            i += syntax.blockOpen.length;
+            while (i < n && !startsWith(in, i, syntax.blockClose)) i++;
+            if (i >= n) return start;
+            i += syntax.blockClose.length;
+        } else if (syntax.lineMarker != null && startsWith(in, i, syntax.lineMarker)) {
+            // A run of consecutive line comments
+            while (i < n) {
+                int j = i;
+                while (j < n && isSpace(in[j])) j++;
+                if (!startsWith(in, j, syntax.lineMarker)) break;
+                while (j < n && in[j] != '\n') j++;
+                i = j < n ? j + 1 : j;
+            }
+        } else {
+            return start;
+        }
+
+        if (!containsLicenseWord(in, bodyStart, i)) return start;
+        if (!separatedFromCode(in, i)) return start;
+        // Swallow the blank lines that separated the header from the code
+        while (i < n && (isSpace(in[i]) || in[i] == '\n')) i++;
+        return i;
+    }
+
+    // A header stands apart: a blank line, "package"/"import" or the end of the file follows it
+    private static boolean separatedFromCode(byte[] in, int i) {
+        int n = in.length;
+        // A line comment run ends after its own line break, a block comment does not
+        int needed = i > 0 && in[i - 1] == '\n' ? 1 : 2;
+        int lines = 0;
+        while (i < n && (isSpace(in[i]) || in[i] == '\n')) {
+            if (in[i] == '\n') lines++;
+            i++;
+        }
+        if (i == n || lines >= needed) return true;
+        return startsWith(in, i, PACKAGE) || startsWith(in, i, IMPORT);
+    }
+
+    private static int newline(byte[] out, int o, boolean crlf) {
+        if (crlf && (o == 0 || out[o - 1] != '\r')) out[o++] = '\r';
+        out[o++] = '\n';
+        return o;
+    }
+
+    // End (exclusive) of a regex literal starting at 'i', or 'i' when the '/' there is not one
+    private static int regexEnd(byte[] in, int i, byte[] out, int o) {
+        int n = in.length;
+        if (i + 1 >= n || in[i + 1] == '/' || in[i + 1] == '*' || !expressionStart(out, o)) return i;
+        boolean inClass = false;
+        int j = i + 1;
+        while (j < n && in[j] != '\n') {
+            byte c = in[j];
+            if (c == '\\' && j + 1 < n && in[j + 1] != '\n') {
+                j += 2;
+                continue;
+            }
+            if (c == '[') {
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            } else if (c == '/' && !inClass) {
+                return j + 1;
+            }
+            j++;
+        }
+        return i; // no closing '/' on this line: a division after all
+    }
+
+    // Whether the code written so far ends where an expression can start
+    private static boolean expressionStart(byte[] out, int o) {
+        int k = o - 1;
+        while (k >= 0 && (isSpace(out[k]) || out[k] == '\n')) k--;
+        if (k < 0) return true;
+        byte c = out[k];
+        if ("(,=:[!&|?{};+-*%<>~^".indexOf(c) >= 0) return true;
+        if (!isIdentifierByte(c)) return false;
+        int end = k + 1;
+        while (k >= 0 && isIdentifierByte(out[k])) k--;
+        return REGEX_KEYWORDS.contains(new String(out, k + 1, end - k - 1, StandardCharsets.US_ASCII));
+    }
+
+    private static boolean isIdentifierByte(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '_' || b == '$' || b < 0;
+    }
+
+    private static boolean containsLicenseWord(byte[] in, int from, int to) {
+        for (int i = from; i < to; i++) {
+            for (byte[] word : LICENSE_WORDS) {
+                if (i + word.length > to) continue;
+                int k = 0;
+                // ASCII lower-casing; bytes >= 0x80 can never match a letter of the word
+                while (k < word.length && (in[i + k] | 0x20) == word[k]) k++;
+                if (k == word.length) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isQuote(byte b) {
+        for (byte q : syntax.quotes) {
+            if (q == b) return true;
+        }
+        return false;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static boolean startsWith(byte[] in, int i, byte[] marker) {
+        if (marker == null || i + marker.length > in.length) return false;
+        for (int k = 0; k < marker.length; k++) {
+            if (in[i + k] != marker[k]) return false;
+        }
+        return true;
+    }
+}
@@ -3,13 +3,12 @@ import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.nio.charset.CharacterCodingException;
 import java.nio.file.*;
 import java.util.*;
 
 public class Ctxgen {
 
-    private static final String OUTPUT_FILENAME = "project_structure.md";
     private static final String CONFIG_FILENAME = "context_config.yaml";
     private static final String VERSION = "2.0";
 
@@ -39,6 +38,29 @@ public class Ctxgen {
             writer.write("  - \"README.md\"\n");
             writer.write("  - \"target\"\n");
             writer.write("  - \"out\"\n");
+
+            writer.write("\n# Output format: markdown (default), jsonl or bin\n");
+            writer.write("# outputFormat: \"markdown\"\n");
+
+            writer.write("\n# Content transforms per extension: stripComments, collapseBlankLines, dropLicenseHeader\n");
+            writer.write("transforms:\n");
+            writer.write("  # \".java\": [\"stripComments\", \"collapseBlankLines\", \"dropLicenseHeader\"]\n");
+
+            writer.write("\n# Secrets replaced with [REDACTED]: \"literal\", \"prefix*\" (token after prefix), \"prefix**\" (base64 block after prefix)\n");
+            writer.write("redactPatterns:\n");
+            writer.write("  - \"AKIA*\"\n");
+            writer.write("  - \"ASIA*\"\n");
+            writer.write("  - \"AIza*\"\n");
+            writer.write("  - \"ghp_*\"\n");
+            writer.write("  - \"gho_*\"\n");
+            writer.write("  - \"github_pat_*\"\n");
+            writer.write("  - \"glpat-*\"\n");
+            writer.write("  - \"xoxb-*\"\n");
+            writer.write("  - \"xoxp-*\"\n");
+            writer.write("  - \"sk_live_*\"\n");
+            writer.write("  - \"PRIVATE KEY-----**\"\n");
+            writer.write("# Also redact long random-looking tokens\n");
+            writer.write("redactHighEntropy: false\n");
         } catch (IOException e) {
             System.err.println("Error creating configuration file: " + e.getMessage());
             System.exit(1);
@@ -46,6 +68,22 @@ public class Ctxgen {
     }
 
     public static void main(String[] args) {
+        // Pull out --format <name> wherever it appears; remaining args stay positional
+        String formatArg = null;
+        List<String> rest = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--format".equals(args[i]) || "-f".equals(args[i])) {
+                if (i + 1 >= args.length || args[i + 1].startsWith("-")) {
+                    System.err.println("Error: Missing value for " + args[i] + ". Use markdown, jsonl or bin.");
+                    System.exit(1);
+                }
+                formatArg = args[++i];
+            } else {
+                rest.add(args[i]);
+            }
+        }
+        args = rest.toArray(new String[0]);
+
         // Normalize primary command (support aliases)
         String cmd = args.length > 0 ? normalize(args[0]) : "--help";
 
@@ -143,6 +181,14 @@ public class Ctxgen {
         if (config == null) {
             config = loadConfig();
         }
+        for (var t : config.getTransforms().entrySet()) {
+            if (t.getValue() == null) continue;
+            for (String step : t.getValue()) {
+                if (!ContentTransform.isKnownStep(step)) {
+                    System.err.println("Warning: Unknown transform '" + step + "' for '" + t.getKey() + "' ignored.");
+                }
+            }
+        }
 
         String path = ".";
         if (args.length > argIndex) {
@@ -151,32 +197,33 @@ public class Ctxgen {
         }
         Path projectRoot = Paths.get(path).toAbsolutePath().normalize();
 
-        if (!Files.exists(projectRoot) || !Files.isDirectory(projectRoot)) {
-            System.err.println("Error: Provided path '" + projectRoot.toAbsolutePath() + "' is not a valid directory.");
+        boolean archive = Files.isRegularFile(projectRoot) && (isZip(projectRoot) || TarSource.isTar(projectRoot));
+        if (!Files.isDirectory(projectRoot) && !archive) {
+            System.err.println("Error: Provided path '" + projectRoot.toAbsolutePath() + "' is not a valid directory or supported archive (zip, jar, tar, tar.gz).");
             System.exit(1);
         }
 
-        Path outputFile = projectRoot.resolve(OUTPUT_FILENAME);
-
-        try (BufferedWriter writer = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
-
-            writer.write("# Project structure overview\n");
+        // Command line wins over the config file
+        String formatName = formatArg != null ? formatArg : config.getOutputFormat();
+        OutputFormat format = OutputFormat.fromName(formatName);
+        if (format == null) {
+            System.err.println("Error: Unknown output format '" + formatName + "'. Use markdown, jsonl or bin.");
+            System.exit(1);
+        }
 
-            writer.write("\n<!-- Configuration used for this analysis:\n");
-            if (profileName != null) {
-                writer.write("Profile: " + profileName + "\n");
-            }
-            writer.write("Include Extensions: " + config.getIncludeExtensions() + "\n");
-            writer.write("Include Names/Paths: " + config.getIncludeNamesOrPaths() + "\n");
-            writer.write("Exclude Extensions: " + config.getExcludeExtensions() + "\n");
-            writer.write("Exclude Names/Paths: " + config.getExcludeNamesOrPaths() + "\n");
-            writer.write("-->\n\n");
+        // Output for an archive goes next to it
+        Path outputDir = archive ? projectRoot.getParent() : projectRoot;
+        Path outputFile = outputDir.resolve(format.getFileName());
 
-            writer.write("```\n");
-            generateTree(writer, projectRoot, projectRoot, 0, config);
-            writer.write("```\n");
+        final AnalyzerConfig cfg = config;
+        // Compiled once the config is final: output file names are already in the exclude list
+        final Selection selection = new Selection(config);
+        final SecretRedactor redactor = SecretRedactor.forConfig(config);
+        try (ProjectSource source = openSource(projectRoot);
+             OutputRenderer renderer = format.open(Files.newOutputStream(outputFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))) {
 
-            processFiles(writer, projectRoot, projectRoot, config);
+            renderer.begin(source, config, selection, profileName);
+            source.walkFiles(selection, (relativePath, fileName, content) -> appendFileContent(renderer, relativePath, fileName, content, cfg, redactor));
 
             System.out.println("Analysis complete. Output written to: " + outputFile.toAbsolutePath());
 
@@ -194,12 +241,15 @@ public class Ctxgen {
         System.out.println("  ctxgen --version | -v                 Show version");
         System.out.println("  ctxgen --install | -i                 Install 'ctxgen' launcher into PATH");
         System.out.println("  ctxgen --config  | -c                 Create default context_config.yaml in current directory");
-        System.out.println("  ctxgen --gen [path] | -g [path]       Generate project_structure.md for current or given path");
+        System.out.println("  ctxgen --gen [path] | -g [path]       Generate project_structure.md for current or given path (directory, zip/jar or tar/tar.gz)");
         System.out.println("  ctxgen --save <name> | -s <name>      Save ./context_config.yaml as named profile");
         System.out.println("  ctxgen --use <name> [path] | -u       Use profile for generation; also writes ./context_config.yaml");
         System.out.println("  ctxgen --list | -l                    List saved profiles");
         System.out.println("  ctxgen --delete <name> | -d <name>    Delete saved profile");
         System.out.println();
+        System.out.println("Options:");
+        System.out.println("  --format <name> | -f <name>           Output format for --gen/--use: markdown (default), jsonl, bin");
+        System.out.println();
         System.out.println("Notes:");
         System.out.println("  - Exclude lists take precedence over include lists in config.");
         System.out.println("  - Profiles are stored per-user (APPDATA/Library/.config).");
@@ -234,7 +284,7 @@ public class Ctxgen {
         if (!Files.exists(configPath)) {
             System.out.println("Configuration file '" + CONFIG_FILENAME + "' not found. Using default settings (all lists are empty).");
             AnalyzerConfig defaultConfig = new AnalyzerConfig();
-            defaultConfig.getExcludeNamesOrPaths().add(OUTPUT_FILENAME);
+            OutputFormat.addOutputFileNames(defaultConfig.getExcludeNamesOrPaths());
             return defaultConfig;
         }
 
@@ -251,101 +301,59 @@ public class Ctxgen {
             System.out.println("Configuration loaded from '" + CONFIG_FILENAME + "'.");
 
             if (config.getIncludeExtensions() == null) config.setIncludeExtensions(new HashSet<>());
-            if (config.getIncludeNamesOrPaths() == null) config.setIncludeNamesOrPaths(new HashSet<>());
+            if (config.getIncludeNamesOrPaths() == null) config.setIncludeNamesOrPaths(new ArrayList<>());
             if (config.getExcludeExtensions() == null) config.setExcludeExtensions(new HashSet<>());
-            if (config.getExcludeNamesOrPaths() == null) config.setExcludeNamesOrPaths(new HashSet<>());
+            if (config.getExcludeNamesOrPaths() == null) config.setExcludeNamesOrPaths(new ArrayList<>());
             // Merge backward-compat key excludeNames -> excludeNamesOrPaths
             if (config.getExcludeNames() != null && !config.getExcludeNames().isEmpty()) {
-                config.getExcludeNamesOrPaths().addAll(config.getExcludeNames());
+                config.getExcludeNamesOrPaths().addAll(0, config.getExcludeNames());
             }
-            config.getExcludeNamesOrPaths().add(OUTPUT_FILENAME);
+            OutputFormat.addOutputFileNames(config.getExcludeNamesOrPaths());
             return config;
         } catch (Exception e) {
             System.err.println("Error reading/parsing configuration file: " + e.getMessage());
             System.err.println("Using default settings.");
             AnalyzerConfig defaultConfig = new AnalyzerConfig();
-            defaultConfig.getExcludeNamesOrPaths().add(OUTPUT_FILENAME);
+            OutputFormat.addOutputFileNames(defaultConfig.getExcludeNamesOrPaths());
             return defaultConfig;
         }
     }
 
-    private static void generateTree(BufferedWriter writer, Path currentPath, Path rootPath, int depth, AnalyzerConfig config) throws IOException {
-        try {
-            var entries = Files.list(currentPath)
-                    .filter(p -> !Selection.shouldIgnore(p, rootPath, config))
-                    .sorted((p1, p2) -> {
-                        if (Files.isDirectory(p1) && Files.isRegularFile(p2)) return -1;
-                        if (Files.isRegularFile(p1) && Files.isDirectory(p2)) return 1;
-                        return p1.getFileName().toString().compareTo(p2.getFileName().toString());
-                    })
-                    .toList();
-
-            for (Path entry : entries) {
-                String indent = "    ".repeat(depth);
-                String name = entry.getFileName().toString();
-
-                if (Files.isDirectory(entry)) {
-                    writer.write(indent + "├── " + name + "/\n");
-                    generateTree(writer, entry, rootPath, depth + 1, config);
-                } else {
-                    long size;
-                    try {
-                        size = Files.size(entry);
-                    } catch (IOException e) {
-                        size = 0;
-                    }
-                    writer.write(indent + "├── " + name + " [" + size + " chars]\n");
-                }
-            }
-        } catch (IOException e) {
-            String indent = "    ".repeat(depth);
-            writer.write(indent + "├── [inaccessible directory]\n");
-        }
+    private static boolean isZip(Path file) {
+        String n = file.getFileName().toString().toLowerCase();
+        return n.endsWith(".zip") || n.endsWith(".jar") || n.endsWith(".war") || n.endsWith(".ear");
     }
 
-    private static void processFiles(BufferedWriter writer, Path currentPath, Path rootPath, AnalyzerConfig config) throws IOException {
-        try {
-            var entries = Files.list(currentPath)
-                    .filter(p -> !Selection.shouldIgnore(p, rootPath, config))
-                    .sorted()
-                    .toList();
-
-            for (Path entry : entries) {
-                if (Files.isDirectory(entry)) {
-                    processFiles(writer, entry, rootPath, config);
-                } else {
-                    if (Selection.shouldIncludeFile(entry, rootPath, config)) {
-                        appendFileContent(writer, entry, rootPath);
-                    }
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Warning: Could not access directory " + currentPath + ": " + e.getMessage());
+    private static ProjectSource openSource(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            return new PathSource(path);
+        }
+        if (TarSource.isTar(path)) {
+            return new TarSource(path);
         }
+        // zip/jar: walk the archive in place through the JDK zip FileSystem
+        FileSystem fs = FileSystems.newFileSystem(path);
+        return new PathSource(fs.getRootDirectories().iterator().next(), fs);
     }
 
-    private static void appendFileContent(BufferedWriter writer, Path file, Path rootPath) throws IOException {
+    private static void appendFileContent(OutputRenderer renderer, String relativePath, String fileName, byte[] content,
+                                          AnalyzerConfig config, SecretRedactor redactor) throws IOException {
+        ContentTransform transform = ContentTransform.forFile(fileName, config);
+        if (transform != null) {
+            content = transform.apply(content);
+        }
+        if (redactor != null) {
+            content = redactor.apply(content);
+        }
         try {
-            String relativePath = rootPath.relativize(file).toString().replace("\\", "/");
-
-
-            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
-                writer.write("\n**Path: `" + relativePath + "`**\n");
-                writer.write("```" + detectCodeBlockType(file) + "\n");
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    writer.write(line);
-                    writer.write("\n");
-                }
-            }
-            writer.write("```\n");
-        } catch (IOException e) {
-
+            renderer.file(relativePath, detectCodeBlockType(fileName), content);
+        } catch (CharacterCodingException e) {
+            // Not UTF-8 text (usually a binary file); leave it out of the content section
         }
     }
 
-    private static String detectCodeBlockType(Path file) {
-        String fileName = file.getFileName().toString().toLowerCase();
+    static String detectCodeBlockType(String name) {
+        String fileName = name.toLowerCase();
         if (fileName.endsWith(".xml")) {
             return "xml";
         } else if (fileName.endsWith(".gradle") || fileName.endsWith(".kts")) {
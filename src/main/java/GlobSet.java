@@ -0,0 +1,374 @@
+import java.util.*;
+
+/*
+ * An ordered list of name/path patterns compiled into one automaton.
+ *
+ * An entry is a glob only if it contains '*' or starts with '!' or '/'. Every other entry is
+ * literal, including names with '[' or '?' such as "[id].tsx", and keeps its original meaning:
+ *   "name"        an entry with this file name, at any depth
+ *   "a/b"         the relative path a/b and everything below it
+ *   "a/b/"        everything below a/b
+ *
+ * Globs follow .gitignore rules: '*', '?', '[...]', leading/middle/trailing "**", a leading
+ * or middle '/' anchors to the root, a trailing '/' matches directories only and a leading
+ * '!' negates. The last matching entry wins, and once a directory is matched nothing below
+ * it can be negated back.
+ *
+ * All patterns share one NFA whose DFA is built lazily and cached, so matching a path costs
+ * one table step per character whatever the number of patterns.
+ */
+public final class GlobSet {
+
+    // Where an accepting pattern applies along a path: at each parent directory, at the path itself
+    private static final int ANY_LEVEL = 0, FINAL_ONLY = 1, PARENTS_ONLY = 2, DIRECTORY_ONLY = 3;
+
+    // Consuming transitions of NFA states
+    private static final int CHAR = 1, ONE = 2, ANY = 3, CLASS = 4;
+
+    private static final int DEAD = -1;
+
+    // NFA
+    private final List<int[]> eps = new ArrayList<>();        // epsilon targets per state
+    private final List<int[]> moves = new ArrayList<>();      // {kind, char, target, classIndex} x n per state
+    private final List<Integer> acceptPattern = new ArrayList<>();
+    private final List<Integer> acceptLevel = new ArrayList<>();
+    private final List<char[]> classes = new ArrayList<>();   // ranges lo,hi,...; first element 1 if negated
+
+    private final List<Boolean> negated = new ArrayList<>();
+    private boolean directoryOnly;
+
+    // DFA, built on demand
+    private final Map<String, Integer> dfaIds = new HashMap<>();
+    private final List<int[]> dfaSets = new ArrayList<>();
+    private final List<int[]> dfaAscii = new ArrayList<>();
+    private final List<Map<Character, Integer>> dfaOther = new ArrayList<>();
+    private final List<int[]> dfaWinners = new ArrayList<>(); // {parents, final, finalDirectory}
+    private final int start;
+
+    private GlobSet(Collection<String> patterns) {
+        int startState = newState();
+        List<Integer> starts = new ArrayList<>();
+        if (patterns != null) {
+            for (String p : patterns) {
+                if (p == null || p.isEmpty()) continue;
+                compilePattern(p.replace("\\", "/"), starts);
+            }
+        }
+        eps.set(startState, starts.stream().mapToInt(Integer::intValue).toArray());
+        start = dfaState(closure(new int[]{startState}));
+    }
+
+    public static GlobSet compile(Collection<String> patterns) {
+        return new GlobSet(patterns);
+    }
+
+    public boolean isEmpty() {
+        return negated.isEmpty();
+    }
+
+    // True when the result for a path can depend on whether it is a directory
+    public boolean hasDirectoryOnlyPatterns() {
+        return directoryOnly;
+    }
+
+    public boolean matches(String relativePath, boolean isDirectory) {
+        if (isEmpty()) return false;
+        String rel = relativePath.replace("\\", "/");
+        int s = start;
+        for (int i = 0; i < rel.length(); i++) {
+            char c = rel.charAt(i);
+            if (c == '/') {
+                // The path so far is a parent directory: a positive match there decides
+                int w = dfaWinners.get(s)[0];
+                if (w >= 0 && !negated.get(w)) return true;
+            }
+            s = step(s, c);
+            if (s == DEAD) return false;
+        }
+        int w = dfaWinners.get(s)[isDirectory ? 2 : 1];
+        return w >= 0 && !negated.get(w);
+    }
+
+    // ---- pattern compilation ----
+
+    private void compilePattern(String raw, List<Integer> starts) {
+        String p = raw;
+        boolean neg = false;
+        boolean glob = p.startsWith("!") || p.startsWith("/") || p.indexOf('*') >= 0;
+        int level;
+        boolean anchored;
+
+        if (!glob) {
+            addLiteral(p, addPatternInfo(false), starts);
+            return;
+        }
+
+        if (p.startsWith("!")) {
+            neg = true;
+            p = p.substring(1);
+        }
+        level = ANY_LEVEL;
+        if (p.endsWith("/")) {
+            level = DIRECTORY_ONLY;
+            while (p.endsWith("/")) p = p.substring(0, p.length() - 1);
+        }
+        if (p.startsWith("/")) {
+            anchored = true;
+            while (p.startsWith("/")) p = p.substring(1);
+        } else {
+            anchored = p.indexOf('/') >= 0;
+        }
+        if (p.isEmpty()) return;
+        if (level == DIRECTORY_ONLY) directoryOnly = true;
+        starts.add(addFragment(p, anchored, level, false, addPatternInfo(neg)));
+    }
+
+    // Literal entries, as matched before glob support
+    private void addLiteral(String p, int index, List<Integer> starts) {
+        if (p.indexOf('/') < 0) {
+            // A bare name matches that name at any depth, and also works as a root-relative path
+            starts.add(addFragment(p, false, FINAL_ONLY, true, index));
+            starts.add(addFragment(p, true, ANY_LEVEL, true, index));
+        } else if (p.endsWith("/")) {
+            starts.add(addFragment(p.substring(0, p.length() - 1), true, PARENTS_ONLY, true, index));
+        } else {
+            starts.add(addFragment(p, true, ANY_LEVEL, true, index));
+        }
+    }
+
+    private int addPatternInfo(boolean neg) {
+        negated.add(neg);
+        return negated.size() - 1;
+    }
+
+    // Builds one NFA fragment accepting for pattern 'index' and returns its entry state
+    private int addFragment(String p, boolean anchored, int level, boolean literal, int index) {
+        int entry = newState();
+        int cur = entry;
+        if (!anchored) cur = addDirs(cur);
+
+        int i = 0;
+        int n = p.length();
+        while (i < n) {
+            char c = p.charAt(i);
+            if (!literal && c == '*') {
+                boolean globstar = i + 1 < n && p.charAt(i + 1) == '*';
+                boolean segmentStart = i == 0 || p.charAt(i - 1) == '/';
+                if (globstar && segmentStart && (i + 2 == n || p.charAt(i + 2) == '/')) {
+                    if (i + 2 == n) {
+                        // trailing "**": everything from here on
+                        int next = newState();
+                        addMove(next, ANY, '\0', next, -1);
+                        addEps(cur, next);
+                        cur = next;
+                        i += 2;
+                    } else {
+                        // "**/": zero or more whole directories
+                        cur = addDirs(cur);
+                        i += 3;
+                    }
+                    continue;
+                }
+                // '*' (and a stray "**") stays within one segment
+                while (i < n && p.charAt(i) == '*') i++;
+                int next = newState();
+                addMove(next, ONE, '\0', next, -1);
+                addEps(cur, next);
+                cur = next;
+                continue;
+            }
+            int next = newState();
+            if (!literal && c == '?') {
+                addMove(cur, ONE, '\0', next, -1);
+                i++;
+            } else if (!literal && c == '[' && p.indexOf(']', i + 2) > 0) {
+                int close = p.indexOf(']', i + 2);
+                addMove(cur, CLASS, '\0', next, parseClass(p.substring(i + 1, close)));
+                i = close + 1;
+            } else {
+                addMove(cur, CHAR, c, next, -1);
+                i++;
+            }
+            cur = next;
+        }
+        acceptPattern.set(cur, index);
+        acceptLevel.set(cur, level);
+        return entry;
+    }
+
+    // "(.*/)?" after 'from'; returns the state that follows it
+    private int addDirs(int from) {
+        int loop = newState();
+        int after = newState();
+        addEps(from, after);
+        addEps(from, loop);
+        addMove(loop, ANY, '\0', loop, -1);
+        addMove(loop, CHAR, '/', after, -1);
+        return after;
+    }
+
+    private int parseClass(String body) {
+        boolean neg = body.startsWith("!") || body.startsWith("^");
+        if (neg) body = body.substring(1);
+        StringBuilder ranges = new StringBuilder();
+        ranges.append(neg ? '\1' : '\0');
+        for (int i = 0; i < body.length(); i++) {
+            char lo = body.charAt(i);
+            char hi = lo;
+            if (i + 2 < body.length() && body.charAt(i + 1) == '-') {
+                hi = body.charAt(i + 2);
+                i += 2;
+            }
+            ranges.append(lo).append(hi);
+        }
+        classes.add(ranges.toString().toCharArray());
+        return classes.size() - 1;
+    }
+
+    private int newState() {
+        eps.add(new int[0]);
+        moves.add(new int[0]);
+        acceptPattern.add(-1);
+        acceptLevel.add(-1);
+        return eps.size() - 1;
+    }
+
+    private void addEps(int from, int to) {
+        int[] e = eps.get(from);
+        int[] ne = Arrays.copyOf(e, e.length + 1);
+        ne[e.length] = to;
+        eps.set(from, ne);
+    }
+
+    private void addMove(int from, int kind, char c, int to, int classIndex) {
+        int[] m = moves.get(from);
+        int[] nm = Arrays.copyOf(m, m.length + 4);
+        nm[m.length] = kind;
+        nm[m.length + 1] = c;
+        nm[m.length + 2] = to;
+        nm[m.length + 3] = classIndex;
+        moves.set(from, nm);
+    }
+
+    // ---- DFA ----
+
+    private int step(int s, char c) {
+        if (c < 128) {
+            int[] row = dfaAscii.get(s);
+            int t = row[c];
+            if (t == -2) {
+                t = computeStep(s, c);
+                row[c] = t;
+            }
+            return t;
+        }
+        Map<Character, Integer> other = dfaOther.get(s);
+        Integer t = other.get(c);
+        if (t == null) {
+            t = computeStep(s, c);
+            other.put(c, t);
+        }
+        return t;
+    }
+
+    private int computeStep(int s, char c) {
+        int[] set = dfaSets.get(s);
+        int[] next = new int[8];
+        int count = 0;
+        for (int q : set) {
+            int[] m = moves.get(q);
+            for (int k = 0; k < m.length; k += 4) {
+                if (accepts(m[k], (char) m[k + 1], m[k + 3], c)) {
+                    if (count == next.length) next = Arrays.copyOf(next, count * 2);
+                    next[count++] = m[k + 2];
+                }
+            }
+        }
+        if (count == 0) return DEAD;
+        return dfaState(closure(Arrays.copyOf(next, count)));
+    }
+
+    private boolean accepts(int kind, char expected, int classIndex, char c) {
+        switch (kind) {
+            case CHAR: return c == expected;
+            case ONE: return c != '/';
+            case ANY: return true;
+            case CLASS: {
+                if (c == '/') return false;
+                char[] r = classes.get(classIndex);
+                boolean in = false;
+                for (int i = 1; i + 1 < r.length; i += 2) {
+                    if (c >= r[i] && c <= r[i + 1]) {
+                        in = true;
+                        break;
+                    }
+                }
+                return in != (r[0] == 1);
+            }
+            default: return false;
+        }
+    }
+
+    private int[] closure(int[] states) {
+        BitSet seen = new BitSet();
+        Deque<Integer> stack = new ArrayDeque<>();
+        for (int s : states) {
+            if (!seen.get(s)) {
+                seen.set(s);
+                stack.push(s);
+            }
+        }
+        while (!stack.isEmpty()) {
+            int s = stack.pop();
+            for (int t : eps.get(s)) {
+                if (!seen.get(t)) {
+                    seen.set(t);
+                    stack.push(t);
+                }
+            }
+        }
+        return seen.stream().toArray();
+    }
+
+    private int dfaState(int[] set) {
+        String key = Arrays.toString(set);
+        Integer id = dfaIds.get(key);
+        if (id != null) return id;
+
+        int parents = -1, fin = -1, finDir = -1;
+        for (int q : set) {
+            int p = acceptPattern.get(q);
+            if (p < 0) continue;
+            switch (acceptLevel.get(q)) {
+                case ANY_LEVEL:
+                    parents = Math.max(parents, p);
+                    fin = Math.max(fin, p);
+                    finDir = Math.max(finDir, p);
+                    break;
+                case FINAL_ONLY:
+                    fin = Math.max(fin, p);
+                    finDir = Math.max(finDir, p);
+                    break;
+                case PARENTS_ONLY:
+                    parents = Math.max(parents, p);
+                    break;
+                case DIRECTORY_ONLY:
+                    parents = Math.max(parents, p);
+                    finDir = Math.max(finDir, p);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        int[] ascii = new int[128];
+        Arrays.fill(ascii, -2);
+        dfaSets.add(set);
+        dfaAscii.add(ascii);
+        dfaOther.add(new HashMap<>());
+        dfaWinners.add(new int[]{parents, fin, finDir});
+        id = dfaSets.size() - 1;
+        dfaIds.put(key, id);
+        return id;
+    }
+}
@@ -0,0 +1,69 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+// One JSON object per line: {"path","size","language","sha256","content"}
+public class JsonlRenderer implements OutputRenderer {
+
+    private final BufferedWriter writer;
+
+    public JsonlRenderer(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void begin(ProjectSource source, AnalyzerConfig config, Selection selection, String profileName) {
+        // Records are self-describing; no header line
+    }
+
+    @Override
+    public void file(String relativePath, String language, byte[] content) throws IOException {
+        String text = Util.decodeUtf8(content);
+
+        writer.write("{\"path\":");
+        writeString(relativePath);
+        writer.write(",\"size\":");
+        writer.write(Integer.toString(content.length));
+        writer.write(",\"language\":");
+        writeString(language);
+        writer.write(",\"sha256\":\"");
+        writer.write(Util.sha256Hex(content));
+        writer.write("\",\"content\":");
+        writeString(text);
+        writer.write("}\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeString(String s) throws IOException {
+        writer.write('"');
+        int start = 0;
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            String esc;
+            switch (c) {
+                case '"': esc = "\\\""; break;
+                case '\\': esc = "\\\\"; break;
+                case '\n': esc = "\\n"; break;
+                case '\r': esc = "\\r"; break;
+                case '\t': esc = "\\t"; break;
+                case '\b': esc = "\\b"; break;
+                case '\f': esc = "\\f"; break;
+                default:
+                    if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                        esc = String.format("\\u%04x", (int) c);
+                    } else {
+                        continue;
+                    }
+            }
+            writer.write(s, start, i - start);
+            writer.write(esc);
+            start = i + 1;
+        }
+        writer.write(s, start, len - start);
+        writer.write('"');
+    }
+}
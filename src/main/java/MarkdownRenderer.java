@@ -0,0 +1,84 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+public class MarkdownRenderer implements OutputRenderer {
+
+    private final BufferedWriter writer;
+
+    public MarkdownRenderer(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void begin(ProjectSource source, AnalyzerConfig config, Selection selection, String profileName) throws IOException {
+        writer.write("# Project structure overview\n");
+
+        writer.write("\n<!-- Configuration used for this analysis:\n");
+        if (profileName != null) {
+            writer.write("Profile: " + profileName + "\n");
+        }
+        writer.write("Include Extensions: " + config.getIncludeExtensions() + "\n");
+        writer.write("Include Names/Paths: " + config.getIncludeNamesOrPaths() + "\n");
+        writer.write("Exclude Extensions: " + config.getExcludeExtensions() + "\n");
+        writer.write("Exclude Names/Paths: " + config.getExcludeNamesOrPaths() + "\n");
+        if (!config.getTransforms().isEmpty()) {
+            writer.write("Transforms: " + config.getTransforms() + "\n");
+        }
+        if (!config.getRedactPatterns().isEmpty() || config.isRedactHighEntropy()) {
+            // Patterns themselves are not printed: literal ones are secrets
+            writer.write("Redaction: " + config.getRedactPatterns().size() + " patterns"
+                    + (config.isRedactHighEntropy() ? ", high-entropy tokens" : "") + "\n");
+        }
+        writer.write("-->\n\n");
+
+        writer.write("```\n");
+        source.walkTree(selection, new ProjectSource.TreeVisitor() {
+            @Override
+            public void directory(int depth, String name) throws IOException {
+                writer.write("    ".repeat(depth) + "├── " + name + "/\n");
+            }
+
+            @Override
+            public void file(int depth, String name, long size) throws IOException {
+                writer.write("    ".repeat(depth) + "├── " + name + " [" + size + " chars]\n");
+            }
+
+            @Override
+            public void inaccessible(int depth) throws IOException {
+                writer.write("    ".repeat(depth) + "├── [inaccessible directory]\n");
+            }
+        });
+        writer.write("```\n");
+    }
+
+    @Override
+    public void file(String relativePath, String language, byte[] content) throws IOException {
+        // Decode before writing anything so an unreadable file leaves no partial block behind
+        String text = Util.decodeUtf8(content);
+
+        writer.write("\n**Path: `" + relativePath + "`**\n");
+        writer.write("```" + language + "\n");
+        // Line endings are normalized to '\n' and the last line is always terminated
+        int start = 0;
+        int len = text.length();
+        for (int i = 0; i < len; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                writer.write(text, start, i - start);
+                writer.write('\n');
+                if (c == '\r' && i + 1 < len && text.charAt(i + 1) == '\n') i++;
+                start = i + 1;
+            }
+        }
+        if (start < len) {
+            writer.write(text, start, len - start);
+            writer.write('\n');
+        }
+        writer.write("```\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,54 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public enum OutputFormat {
+    MARKDOWN("markdown", "project_structure.md"),
+    JSONL("jsonl", "project_structure.jsonl"),
+    BINARY("bin", "project_structure.bin");
+
+    private final String id;
+    private final String fileName;
+
+    OutputFormat(String id, String fileName) {
+        this.id = id;
+        this.fileName = fileName;
+    }
+
+    public String getId() { return id; }
+    public String getFileName() { return fileName; }
+
+    public OutputRenderer open(OutputStream out) throws IOException {
+        switch (this) {
+            case JSONL: return new JsonlRenderer(out);
+            case BINARY: return new BinaryRenderer(out);
+            default: return new MarkdownRenderer(out);
+        }
+    }
+
+    // Generated files are never part of the analysed project, whatever format produced them
+    // Appended last, so no '!' entry can re-include an output file
+    public static void addOutputFileNames(List<String> target) {
+        for (OutputFormat f : values()) {
+            if (!target.contains(f.fileName)) target.add(f.fileName);
+        }
+    }
+
+    // Accepts the id and a few common aliases; returns null for unknown names
+    public static OutputFormat fromName(String name) {
+        if (name == null || name.isBlank()) return MARKDOWN;
+        switch (name.trim().toLowerCase()) {
+            case "markdown":
+            case "md":
+                return MARKDOWN;
+            case "jsonl":
+            case "ndjson":
+                return JSONL;
+            case "bin":
+            case "binary":
+                return BINARY;
+            default:
+                return null;
+        }
+    }
+}
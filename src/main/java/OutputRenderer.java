@@ -0,0 +1,11 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface OutputRenderer extends Closeable {
+
+    // Called once before any file; renderers that have a header or tree write it here
+    void begin(ProjectSource source, AnalyzerConfig config, Selection selection, String profileName) throws IOException;
+
+    // Called once per selected file, in output order
+    void file(String relativePath, String language, byte[] content) throws IOException;
+}
@@ -0,0 +1,93 @@
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// A directory tree; also used for zip/jar archives mounted through the JDK zip FileSystem
+public class PathSource implements ProjectSource {
+
+    private final Path root;
+    private final FileSystem fileSystem; // closed with the source when not null
+
+    public PathSource(Path root) {
+        this(root, null);
+    }
+
+    public PathSource(Path root, FileSystem fileSystem) {
+        this.root = root;
+        this.fileSystem = fileSystem;
+    }
+
+    @Override
+    public void walkTree(Selection selection, TreeVisitor visitor) throws IOException {
+        generateTree(visitor, root, 0, selection);
+    }
+
+    @Override
+    public void walkFiles(Selection selection, FileVisitor visitor) throws IOException {
+        processFiles(visitor, root, selection);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fileSystem != null) fileSystem.close();
+    }
+
+    private void generateTree(TreeVisitor visitor, Path currentPath, int depth, Selection selection) throws IOException {
+        try {
+            var entries = Files.list(currentPath)
+                    .filter(p -> !selection.shouldIgnore(p, root))
+                    .sorted((p1, p2) -> {
+                        if (Files.isDirectory(p1) && Files.isRegularFile(p2)) return -1;
+                        if (Files.isRegularFile(p1) && Files.isDirectory(p2)) return 1;
+                        return p1.getFileName().toString().compareTo(p2.getFileName().toString());
+                    })
+                    .toList();
+
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+
+                if (Files.isDirectory(entry)) {
+                    visitor.directory(depth, name);
+                    generateTree(visitor, entry, depth + 1, selection);
+                } else {
+                    long size;
+                    try {
+                        size = Files.size(entry);
+                    } catch (IOException e) {
+                        size = 0;
+                    }
+                    visitor.file(depth, name, size);
+                }
+            }
+        } catch (IOException e) {
+            visitor.inaccessible(depth);
+        }
+    }
+
+    private void processFiles(FileVisitor visitor, Path currentPath, Selection selection) throws IOException {
+        try {
+            var entries = Files.list(currentPath)
+                    .filter(p -> !selection.shouldIgnore(p, root))
+                    .sorted()
+                    .toList();
+
+            for (Path entry : entries) {
+                if (Files.isDirectory(entry)) {
+                    processFiles(visitor, entry, selection);
+                } else if (selection.shouldIncludeFile(entry, root)) {
+                    byte[] content;
+                    try {
+                        content = Files.readAllBytes(entry);
+                    } catch (IOException e) {
+                        continue;
+                    }
+                    String relativePath = root.relativize(entry).toString().replace("\\", "/");
+                    visitor.file(relativePath, entry.getFileName().toString(), content);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: Could not access directory " + currentPath + ": " + e.getMessage());
+        }
+    }
+}
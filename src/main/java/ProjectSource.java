@@ -0,0 +1,22 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+// Something to generate context from: a directory, or an archive walked in place
+public interface ProjectSource extends Closeable {
+
+    interface TreeVisitor {
+        void directory(int depth, String name) throws IOException;
+        void file(int depth, String name, long size) throws IOException;
+        void inaccessible(int depth) throws IOException;
+    }
+
+    interface FileVisitor {
+        void file(String relativePath, String fileName, byte[] content) throws IOException;
+    }
+
+    // Selected entries depth-first; directories before files, each group by name
+    void walkTree(Selection selection, TreeVisitor visitor) throws IOException;
+
+    // Selected files with their content, in the order they should appear in the output
+    void walkFiles(Selection selection, FileVisitor visitor) throws IOException;
+}
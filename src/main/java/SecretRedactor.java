@@ -0,0 +1,441 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/*
+ * Replaces secrets in file content with a marker before it is rendered.
+ *
+ * All patterns are compiled once into a single Aho-Corasick automaton over byte classes
+ * (failure links folded into a dense transition table), so scanning costs one table
+ * lookup per byte however many patterns there are. Pattern forms:
+ *
+ *   "text"    literal; the whole match is replaced
+ *   "text*"   prefix; the token that follows it ([A-Za-z0-9_-+/=.]) is replaced
+ *   "text**"  prefix; the body that follows it up to "-----END", across lines and header
+ *             lines, is replaced (PEM keys, also inside string literals with escaped newlines)
+ *
+ * Optionally, long mixed-case alphanumeric tokens with high Shannon entropy are replaced too.
+ * Content without any match is returned as the same array, without copying.
+ */
+public final class SecretRedactor {
+
+    public static final String MARKER = "[REDACTED]";
+    private static final byte[] MARKER_BYTES = MARKER.getBytes(StandardCharsets.US_ASCII);
+
+    private static final int LITERAL = 0, TOKEN = 1, BLOCK = 2;
+    private static final byte[] PEM_END = "-----END".getBytes(StandardCharsets.US_ASCII);
+
+    // Shortest token after a prefix pattern that is treated as a secret
+    private static final int MIN_TOKEN_LENGTH = 4;
+    private static final int ENTROPY_MIN_LENGTH = 24;
+    // Required entropy as a share of the most a token of its length can have over [A-Za-z0-9]:
+    // log2(min(length, 62)) bits. Random tokens of 24+ characters reach it about 98% of the time.
+    private static final double ENTROPY_RATIO = 0.82;
+    private static final int ENTROPY_ALPHABET = 62;
+
+    private static final boolean[] WORD = new boolean[256];
+    private static final boolean[] TOKEN_CHARS = new boolean[256];
+    private static final int[] ENTROPY_MASK = new int[256]; // -1 for token bytes, 0 otherwise
+    private static final boolean[] BLOCK_CHARS = new boolean[256];
+
+    static {
+        for (int c = 0; c < 256; c++) {
+            boolean alnum = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+            WORD[c] = alnum || c == '_';
+            boolean token = alnum || c == '_' || c == '-' || c == '+' || c == '/' || c == '=';
+            ENTROPY_MASK[c] = token ? -1 : 0;
+            TOKEN_CHARS[c] = token || c == '.';
+            BLOCK_CHARS[c] = alnum || c == '+' || c == '/' || c == '=' || c == '\n' || c == '\r' || c == ' ' || c == '\t';
+        }
+    }
+
+    private final byte[][] patterns;
+    private final int[] kinds;
+    private final int[] byteClass = new int[256];
+    private final int classes;
+    private final int[] delta;      // state offset + class -> next state offset (offset = state * classes)
+    private final int[] match;      // pattern spelled by a state's own trie path, or -1
+    private final int[] dictLink;   // next shorter state on the failure chain that has a pattern, or -1
+    private final int acceptFrom;   // accepting states are numbered last: offset >= acceptFrom
+    private final boolean[] firstBytes = new boolean[256];
+    private final long[] pairs = new long[1024]; // first two bytes of every pattern, as a 64K-bit set
+    private final boolean entropy;
+
+    private SecretRedactor(List<byte[]> patterns, List<Integer> kinds, boolean entropy) {
+        this.patterns = patterns.toArray(new byte[0][]);
+        this.kinds = kinds.stream().mapToInt(Integer::intValue).toArray();
+        this.entropy = entropy;
+
+        // Bytes that occur in no pattern share class 0
+        int k = 1;
+        for (byte[] p : this.patterns) {
+            for (byte b : p) {
+                if (byteClass[b & 0xFF] == 0) byteClass[b & 0xFF] = k++;
+            }
+        }
+        classes = k;
+
+        // Trie
+        List<int[]> next = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        next.add(newRow());
+        terminal.add(-1);
+        for (int p = 0; p < this.patterns.length; p++) {
+            int s = 0;
+            for (byte b : this.patterns[p]) {
+                int c = byteClass[b & 0xFF];
+                if (next.get(s)[c] < 0) {
+                    next.get(s)[c] = next.size();
+                    next.add(newRow());
+                    terminal.add(-1);
+                }
+                s = next.get(s)[c];
+            }
+            int prev = terminal.get(s);
+            if (prev < 0) terminal.set(s, p); // duplicate patterns: first one wins
+        }
+
+        // Breadth-first: failure links, complete transitions, inherited matches
+        int states = next.size();
+        int[] fail = new int[states];
+        int[] delta = new int[states * classes];
+        int[] match = new int[states];
+        int[] dictLink = new int[states];
+        int[] queue = new int[states];
+        int head = 0, tail = 0;
+        match[0] = -1;
+        dictLink[0] = -1;
+        for (int c = 0; c < classes; c++) {
+            int t = next.get(0)[c];
+            if (t < 0) {
+                delta[c] = 0;
+            } else {
+                delta[c] = t;
+                fail[t] = 0;
+                queue[tail++] = t;
+            }
+        }
+        while (head < tail) {
+            int s = queue[head++];
+            match[s] = terminal.get(s);
+            dictLink[s] = match[fail[s]] >= 0 ? fail[s] : dictLink[fail[s]];
+            for (int c = 0; c < classes; c++) {
+                int t = next.get(s)[c];
+                if (t < 0) {
+                    delta[s * classes + c] = delta[fail[s] * classes + c];
+                } else {
+                    delta[s * classes + c] = t;
+                    fail[t] = delta[fail[s] * classes + c];
+                    queue[tail++] = t;
+                }
+            }
+        }
+
+        // Renumber so that one comparison tells whether a state accepts, and pre-multiply targets
+        int[] id = new int[states];
+        int nextId = 0;
+        for (int s = 0; s < states; s++) if (match[s] < 0 && dictLink[s] < 0) id[s] = nextId++;
+        int firstAccepting = nextId;
+        for (int s = 0; s < states; s++) if (match[s] >= 0 || dictLink[s] >= 0) id[s] = nextId++;
+        this.delta = new int[states * classes];
+        this.match = new int[states];
+        this.dictLink = new int[states];
+        for (int s = 0; s < states; s++) {
+            this.match[id[s]] = match[s];
+            this.dictLink[id[s]] = dictLink[s] >= 0 ? id[dictLink[s]] : -1;
+            for (int c = 0; c < classes; c++) {
+                this.delta[id[s] * classes + c] = id[delta[s * classes + c]] * classes;
+            }
+        }
+        this.acceptFrom = firstAccepting * classes;
+
+        for (byte[] p : this.patterns) {
+            firstBytes[p[0] & 0xFF] = true;
+            if (p.length > 1) {
+                setPair(pairIndex(p[0], p[1]));
+            } else {
+                for (int b = 0; b < 256; b++) setPair(pairIndex(p[0], (byte) b));
+            }
+        }
+    }
+
+    private void setPair(int index) {
+        pairs[index >>> 6] |= 1L << index;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[classes];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    // Returns null when redaction is not configured
+    public static SecretRedactor forConfig(AnalyzerConfig config) {
+        return compile(config.getRedactPatterns(), config.isRedactHighEntropy());
+    }
+
+    public static SecretRedactor compile(Collection<String> specs, boolean entropy) {
+        List<byte[]> patterns = new ArrayList<>();
+        List<Integer> kinds = new ArrayList<>();
+        if (specs != null) {
+            for (String spec : specs) {
+                if (spec == null) continue;
+                int kind = LITERAL;
+                String text = spec;
+                if (text.endsWith("**")) {
+                    kind = BLOCK;
+                    text = text.substring(0, text.length() - 2);
+                } else if (text.endsWith("*")) {
+                    kind = TOKEN;
+                    text = text.substring(0, text.length() - 1);
+                }
+                if (text.isEmpty()) continue;
+                patterns.add(text.getBytes(StandardCharsets.UTF_8));
+                kinds.add(kind);
+            }
+        }
+        if (patterns.isEmpty() && !entropy) return null;
+        return new SecretRedactor(patterns, kinds, entropy);
+    }
+
+    public byte[] apply(byte[] in) {
+        byte[] out = patterns.length > 0 ? redactPatterns(in) : in;
+        return entropy ? redactHighEntropy(out) : out;
+    }
+
+    private byte[] redactPatterns(byte[] in) {
+        final int[] delta = this.delta;
+        final int[] byteClass = this.byteClass;
+        final boolean[] firstBytes = this.firstBytes;
+        final long[] pairs = this.pairs;
+        int n = in.length;
+        byte[] out = null;
+        int o = 0;
+        int emitted = 0; // input before this index is already in 'out' (or needs no copy)
+
+        int i = 0;
+        while (i < n) {
+            // Skip ahead to the next position where some pattern could start: a cheap
+            // first-byte test, then the first-two-bytes set
+            while (true) {
+                while (i < n && !firstBytes[in[i] & 0xFF]) i++;
+                if (i + 1 >= n) break;
+                int pair = pairIndex(in[i], in[i + 1]);
+                if ((pairs[pair >>> 6] & (1L << pair)) != 0) break;
+                i++;
+            }
+            if (i >= n) break;
+
+            // Run the automaton from there until it falls back to the root
+            int state = 0;
+            do {
+                state = delta[state + byteClass[in[i] & 0xFF]];
+                if (state >= acceptFrom) {
+                    // Try the patterns ending here longest first, until one passes its checks
+                    int from = -1, to = -1;
+                    int q = state / classes;
+                    if (match[q] < 0) q = dictLink[q];
+                    for (; q >= 0 && from < 0; q = dictLink[q]) {
+                        int p = match[q];
+                        byte[] pat = patterns[p];
+                        int start = i - pat.length + 1;
+                        if (start < emitted || (start > 0 && WORD[pat[0] & 0xFF] && WORD[in[start - 1] & 0xFF])) continue;
+                        if (kinds[p] == LITERAL) {
+                            from = start;
+                            to = i + 1;
+                        } else if (kinds[p] == BLOCK) {
+                            // The marker also ends the "-----END ..." line; what follows that is no key
+                            if (onEndLine(in, start)) continue;
+                            from = skipBlockSpace(in, i + 1);
+                            to = blockEnd(in, from);
+                            if (to >= 0) to = trimBlockSpace(in, from, to);
+                            if (to - from < MIN_TOKEN_LENGTH) from = -1;
+                        } else {
+                            from = i + 1;
+                            to = from;
+                            while (to < n && TOKEN_CHARS[in[to] & 0xFF]) to++;
+                            if (to - from < MIN_TOKEN_LENGTH) from = -1;
+                        }
+                    }
+                    if (from >= 0) {
+                        if (out == null) out = new byte[n + MARKER_BYTES.length];
+                        out = copy(out, o, in, emitted, from);
+                        o += from - emitted;
+                        out = copy(out, o, MARKER_BYTES, 0, MARKER_BYTES.length);
+                        o += MARKER_BYTES.length;
+                        emitted = to;
+                        // Continue after the redacted part with a fresh automaton state
+                        i = to - 1;
+                        state = 0;
+                    }
+                }
+                i++;
+            } while (state != 0 && i < n);
+        }
+
+        if (out == null) return in;
+        out = copy(out, o, in, emitted, n);
+        o += n - emitted;
+        return o == out.length ? out : Arrays.copyOf(out, o);
+    }
+
+    private static byte[] redactHighEntropy(byte[] in) {
+        int n = in.length;
+        byte[] out = null;
+        int o = 0;
+        int emitted = 0;
+
+        // Length of the current token run, kept without branches; only runs that reach
+        // the minimum length are looked at more closely
+        int run = 0;
+        for (int i = 0; i < n; i++) {
+            run = (run + 1) & ENTROPY_MASK[in[i] & 0xFF];
+            if (run != ENTROPY_MIN_LENGTH) continue;
+            int start = i - ENTROPY_MIN_LENGTH + 1;
+            while (i + 1 < n && ENTROPY_MASK[in[i + 1] & 0xFF] != 0) i++;
+            run = 0;
+            if (isHighEntropy(in, start, i + 1)) {
+                if (out == null) out = new byte[n + MARKER_BYTES.length];
+                out = copy(out, o, in, emitted, start);
+                o += start - emitted;
+                out = copy(out, o, MARKER_BYTES, 0, MARKER_BYTES.length);
+                o += MARKER_BYTES.length;
+                emitted = i + 1;
+            }
+        }
+
+        if (out == null) return in;
+        out = copy(out, o, in, emitted, n);
+        o += n - emitted;
+        return o == out.length ? out : Arrays.copyOf(out, o);
+    }
+
+    private static int pairIndex(byte first, byte second) {
+        return ((first & 0xFF) << 8) | (second & 0xFF);
+    }
+
+    // Copies in[from, to) to out at 'at', growing 'out' when needed
+    private static byte[] copy(byte[] out, int at, byte[] in, int from, int to) {
+        int len = to - from;
+        if (at + len > out.length) {
+            out = Arrays.copyOf(out, Math.max(out.length * 2, at + len));
+        }
+        System.arraycopy(in, from, out, at, len);
+        return out;
+    }
+
+    // Long tokens mixing upper case, lower case and digits, with a near-random byte distribution
+    private static boolean isHighEntropy(byte[] in, int from, int to) {
+        int len = to - from;
+        if (len < ENTROPY_MIN_LENGTH) return false;
+        boolean upper = false, lower = false, digit = false;
+        int[] counts = new int[128];
+        for (int i = from; i < to; i++) {
+            int c = in[i];
+            counts[c]++;
+            if (c >= 'A' && c <= 'Z') upper = true;
+            else if (c >= 'a' && c <= 'z') lower = true;
+            else if (c >= '0' && c <= '9') digit = true;
+        }
+        if (!(upper && lower && digit)) return false;
+        double h = 0;
+        for (int count : counts) {
+            if (count == 0) continue;
+            double p = (double) count / len;
+            h -= p * Math.log(p);
+        }
+        return h >= ENTROPY_RATIO * Math.log(Math.min(len, ENTROPY_ALPHABET));
+    }
+
+    // Length of a line break at 'i': a real one, or "\n"/"\r" escaped once or twice inside a string literal
+    private static int lineBreak(byte[] in, int i) {
+        int n = in.length;
+        if (in[i] == '\n' || in[i] == '\r') return 1;
+        if (in[i] != '\\') return 0;
+        int k = i + 1;
+        if (k < n && in[k] == '\\') k++;
+        return k < n && (in[k] == 'n' || in[k] == 'r') ? k + 1 - i : 0;
+    }
+
+    private static int skipBlockSpace(byte[] in, int i) {
+        while (i < in.length) {
+            int br = lineBreak(in, i);
+            if (br > 0) {
+                i += br;
+            } else if (isSpace(in[i])) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static int trimBlockSpace(byte[] in, int from, int to) {
+        while (to > from) {
+            if (isSpace(in[to - 1])) {
+                to--;
+            } else if (to - 2 >= from && (in[to - 1] == 'n' || in[to - 1] == 'r') && in[to - 2] == '\\') {
+                to -= 2;
+                if (to > from && in[to - 1] == '\\') to--;
+            } else {
+                break;
+            }
+        }
+        return to;
+    }
+
+    /*
+     * End of a PEM body starting at 'i': the index of the "-----END" line, or the end of the
+     * content for a truncated key; -1 if something else follows, e.g. when the pattern matched
+     * the END line itself. RFC 1421 header lines ("Proc-Type: 4,ENCRYPTED") are part of the body.
+     */
+    private static int blockEnd(byte[] in, int i) {
+        int n = in.length;
+        while (i < n) {
+            int br = lineBreak(in, i);
+            if (br > 0) {
+                i += br;
+                continue;
+            }
+            if (BLOCK_CHARS[in[i] & 0xFF]) {
+                // A "Name:" run starts a header line; base64 never contains ':'
+                int k = i;
+                while (k < n && (WORD[in[k] & 0xFF] || in[k] == '-')) k++;
+                if (k > i && k < n && in[k] == ':') {
+                    while (k < n && lineBreak(in, k) == 0) k++;
+                    i = k;
+                } else {
+                    while (i < n && BLOCK_CHARS[in[i] & 0xFF] && lineBreak(in, i) == 0) i++;
+                }
+                continue;
+            }
+            if (startsWith(in, i, PEM_END)) return i;
+            return -1;
+        }
+        return n;
+    }
+
+    private static boolean onEndLine(byte[] in, int i) {
+        int k = i;
+        while (k > 0 && in[k - 1] != '\n' && !(k >= 2 && in[k - 2] == '\\' && in[k - 1] == 'n')) k--;
+        for (; k + PEM_END.length <= i; k++) {
+            if (startsWith(in, k, PEM_END)) return true;
+        }
+        return false;
+    }
+
+    private static boolean startsWith(byte[] in, int i, byte[] prefix) {
+        if (i + prefix.length > in.length) return false;
+        for (int k = 0; k < prefix.length; k++) {
+            if (in[i + k] != prefix[k]) return false;
+        }
+        return true;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+}
@@ -1,13 +1,36 @@
+import java.nio.file.Files;
 import java.nio.file.Path;
 
+// Selection rules of one config, with the name/path lists compiled once after the config is loaded
 public class Selection {
-    public static boolean shouldIgnore(Path path, Path rootPath, AnalyzerConfig config) {
-        String name = path.getFileName().toString();
-        String rel = Util.relativizeSafe(rootPath, path);
+    private final AnalyzerConfig config;
+    private final GlobSet include;
+    private final GlobSet exclude;
+    private final boolean excludeMode;
+    private final boolean hasInclude;
 
-        boolean excludeMode = !config.getExcludeExtensions().isEmpty() || !config.getExcludeNamesOrPaths().isEmpty();
+    public Selection(AnalyzerConfig config) {
+        this.config = config;
+        this.include = GlobSet.compile(config.getIncludeNamesOrPaths());
+        this.exclude = GlobSet.compile(config.getExcludeNamesOrPaths());
+        this.excludeMode = !config.getExcludeExtensions().isEmpty() || !config.getExcludeNamesOrPaths().isEmpty();
+        this.hasInclude = !config.getIncludeExtensions().isEmpty() || !config.getIncludeNamesOrPaths().isEmpty();
+    }
+
+    public boolean shouldIgnore(Path path, Path rootPath) {
+        // Only stat the entry when a directory-only pattern makes the answer depend on it
+        boolean isDirectory = excludeMode && exclude.hasDirectoryOnlyPatterns() && Files.isDirectory(path);
+        return shouldIgnore(Util.relativizeSafe(rootPath, path), path.getFileName().toString(), isDirectory);
+    }
+
+    public boolean shouldIncludeFile(Path file, Path rootPath) {
+        return shouldIncludeFile(Util.relativizeSafe(rootPath, file), file.getFileName().toString());
+    }
+
+    // Same rules on an already relative path, for sources without a Path per entry (tar)
+    public boolean shouldIgnore(String rel, String name, boolean isDirectory) {
         if (excludeMode) {
-            if (Util.matchesNameOrPath(rel, name, config.getExcludeNamesOrPaths())) return true;
+            if (exclude.matches(rel, isDirectory)) return true;
             String ext = Util.extensionOf(name);
             if (!ext.isEmpty() && config.getExcludeExtensions().contains(ext)) return true;
             return false;
@@ -15,19 +38,12 @@ public class Selection {
         return false;
     }
 
-    public static boolean shouldIncludeFile(Path file, Path rootPath, AnalyzerConfig config) {
-        String name = file.getFileName().toString();
-        String rel = Util.relativizeSafe(rootPath, file);
-
-        boolean excludeMode = !config.getExcludeExtensions().isEmpty() || !config.getExcludeNamesOrPaths().isEmpty();
+    public boolean shouldIncludeFile(String rel, String name) {
         if (excludeMode) return true;
-
-        boolean hasInclude = !config.getIncludeExtensions().isEmpty() || !config.getIncludeNamesOrPaths().isEmpty();
         if (!hasInclude) return true;
 
-        if (Util.matchesNameOrPath(rel, name, config.getIncludeNamesOrPaths())) return true;
+        if (include.matches(rel, false)) return true;
         String ext = Util.extensionOf(name);
         return !ext.isEmpty() && config.getIncludeExtensions().contains(ext);
     }
 }
-
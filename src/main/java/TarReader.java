@@ -0,0 +1,212 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Minimal sequential tar reader (ustar, GNU long names, pax "path"/"size" records).
+ * Entries are read strictly in archive order; the content of the current entry can be
+ * read once with readContent(), otherwise it is skipped by the next call to next().
+ */
+public class TarReader {
+
+    private static final int BLOCK = 512;
+
+    public static final class Entry {
+        public final String name;
+        public final boolean directory;
+        public final long size;
+
+        Entry(String name, boolean directory, long size) {
+            this.name = name;
+            this.directory = directory;
+            this.size = size;
+        }
+    }
+
+    private final InputStream in;
+    private final byte[] header = new byte[BLOCK];
+    private long remaining;  // unread content bytes of the current entry
+    private long padding;    // bytes up to the next block boundary
+
+    public TarReader(InputStream in) {
+        this.in = in;
+    }
+
+    // Next file or directory entry, or null at the end of the archive; links and special files are skipped
+    public Entry next() throws IOException {
+        String longName = null;
+        Long paxSize = null;
+        while (true) {
+            skipFully(remaining + padding);
+            remaining = 0;
+            padding = 0;
+
+            if (!readBlock()) return null;
+            if (isZeroBlock()) return null;
+
+            long size = parseSize();
+            remaining = size;
+            padding = (BLOCK - size % BLOCK) % BLOCK;
+            char type = (char) header[156];
+
+            if (type == 'L') {
+                longName = trimNul(new String(readContent(), StandardCharsets.UTF_8));
+                continue;
+            }
+            if (type == 'x') {
+                byte[] pax = readContent();
+                String path = paxValue(pax, "path");
+                if (path != null) longName = path;
+                String sz = paxValue(pax, "size");
+                if (sz != null) paxSize = Long.parseLong(sz.trim());
+                continue;
+            }
+            if (paxSize != null) {
+                remaining = paxSize;
+                padding = (BLOCK - paxSize % BLOCK) % BLOCK;
+            }
+
+            String name = longName != null ? longName : headerName();
+            longName = null;
+            paxSize = null;
+
+            boolean directory = type == '5';
+            boolean regular = type == '0' || type == '\0' || type == '7';
+            if (!directory && !regular) continue;
+
+            name = normalizeName(name);
+            if (name.isEmpty()) continue;
+            return new Entry(name, directory, directory ? 0 : remaining);
+        }
+    }
+
+    // Content of the current entry; may be called once per entry
+    public byte[] readContent() throws IOException {
+        if (remaining > Integer.MAX_VALUE - 8) {
+            throw new IOException("Tar entry too large: " + remaining + " bytes");
+        }
+        byte[] data = new byte[(int) remaining];
+        int off = 0;
+        while (off < data.length) {
+            int r = in.read(data, off, data.length - off);
+            if (r < 0) throw new EOFException("Truncated tar entry");
+            off += r;
+        }
+        remaining = 0;
+        return data;
+    }
+
+    private boolean readBlock() throws IOException {
+        int off = 0;
+        while (off < BLOCK) {
+            int r = in.read(header, off, BLOCK - off);
+            if (r < 0) {
+                if (off == 0) return false;
+                throw new EOFException("Truncated tar header");
+            }
+            off += r;
+        }
+        return true;
+    }
+
+    private boolean isZeroBlock() {
+        for (byte b : header) {
+            if (b != 0) return false;
+        }
+        return true;
+    }
+
+    private long parseSize() throws IOException {
+        if ((header[124] & 0x80) != 0) {
+            // GNU base-256 encoding for sizes that do not fit in 11 octal digits
+            long v = 0;
+            for (int i = 125; i < 136; i++) v = (v << 8) | (header[i] & 0xFF);
+            return v;
+        }
+        long v = 0;
+        for (int i = 124; i < 136; i++) {
+            byte b = header[i];
+            if (b == 0 || b == ' ') {
+                if (v != 0) break;
+                continue;
+            }
+            if (b < '0' || b > '7') throw new IOException("Malformed tar header size");
+            v = (v << 3) + (b - '0');
+        }
+        return v;
+    }
+
+    private String headerName() {
+        String name = field(0, 100);
+        boolean ustar = header[257] == 'u' && header[258] == 's' && header[259] == 't'
+                && header[260] == 'a' && header[261] == 'r';
+        if (ustar) {
+            String prefix = field(345, 155);
+            if (!prefix.isEmpty()) name = prefix + "/" + name;
+        }
+        return name;
+    }
+
+    private String field(int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) end++;
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private void skipFully(long n) throws IOException {
+        while (n > 0) {
+            long s = in.skip(n);
+            if (s <= 0) {
+                if (in.read() < 0) throw new EOFException("Truncated tar entry");
+                s = 1;
+            }
+            n -= s;
+        }
+    }
+
+    // Records are "<length> <key>=<value>\n", where length counts the bytes of the whole record
+    private static String paxValue(byte[] pax, String key) {
+        byte[] k = key.getBytes(StandardCharsets.UTF_8);
+        int i = 0;
+        while (i < pax.length) {
+            int sp = i;
+            int len = 0;
+            while (sp < pax.length && pax[sp] >= '0' && pax[sp] <= '9') {
+                len = len * 10 + (pax[sp] - '0');
+                sp++;
+            }
+            if (sp == i || sp >= pax.length || pax[sp] != ' ' || len <= sp - i || i + len > pax.length) break;
+            int end = i + len;
+            if (pax[end - 1] == '\n') end--;
+            int keyStart = sp + 1;
+            int eq = keyStart;
+            while (eq < end && pax[eq] != '=') eq++;
+            if (eq - keyStart == k.length && regionMatches(pax, keyStart, k)) {
+                return new String(pax, eq + 1, end - eq - 1, StandardCharsets.UTF_8);
+            }
+            i += len;
+        }
+        return null;
+    }
+
+    private static boolean regionMatches(byte[] b, int offset, byte[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if (b[offset + i] != expected[i]) return false;
+        }
+        return true;
+    }
+
+    private static String trimNul(String s) {
+        int idx = s.indexOf('\0');
+        return idx >= 0 ? s.substring(0, idx) : s;
+    }
+
+    private static String normalizeName(String name) {
+        String n = name.replace("\\", "/");
+        while (n.startsWith("./")) n = n.substring(2);
+        while (n.startsWith("/")) n = n.substring(1);
+        while (n.endsWith("/")) n = n.substring(0, n.length() - 1);
+        return n.equals(".") ? "" : n;
+    }
+}
@@ -0,0 +1,128 @@
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+/*
+ * A tar or tar.gz archive read in place. Tar has no index, so the tree is built from a
+ * header-only pass (entry contents are skipped), and file contents come from a second
+ * pass in archive order.
+ */
+public class TarSource implements ProjectSource {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final class Node {
+        final String name;
+        final boolean directory;
+        long size;
+        final Map<String, Node> children = new HashMap<>();
+
+        Node(String name, boolean directory) {
+            this.name = name;
+            this.directory = directory;
+        }
+    }
+
+    private final Path archive;
+
+    public TarSource(Path archive) {
+        this.archive = archive;
+    }
+
+    public static boolean isTar(Path file) {
+        String n = file.getFileName().toString().toLowerCase();
+        return n.endsWith(".tar") || n.endsWith(".tar.gz") || n.endsWith(".tgz");
+    }
+
+    @Override
+    public void walkTree(Selection selection, TreeVisitor visitor) throws IOException {
+        Node root = new Node("", true);
+        try (InputStream in = open()) {
+            TarReader reader = new TarReader(in);
+            TarReader.Entry e;
+            while ((e = reader.next()) != null) {
+                Node parent = root;
+                String[] parts = e.name.split("/");
+                for (int i = 0; i < parts.length - 1; i++) {
+                    parent = parent.children.computeIfAbsent(parts[i], n -> new Node(n, true));
+                }
+                boolean directory = e.directory;
+                Node node = parent.children.computeIfAbsent(parts[parts.length - 1], n -> new Node(n, directory));
+                node.size = e.size;
+            }
+        }
+        generateTree(visitor, root, "", 0, selection);
+    }
+
+    @Override
+    public void walkFiles(Selection selection, FileVisitor visitor) throws IOException {
+        // Ignore decisions per directory, so each ancestor is checked once
+        Map<String, Boolean> ignoredDirs = new HashMap<>();
+        try (InputStream in = open()) {
+            TarReader reader = new TarReader(in);
+            TarReader.Entry e;
+            while ((e = reader.next()) != null) {
+                if (e.directory) continue;
+                int slash = e.name.lastIndexOf('/');
+                String name = e.name.substring(slash + 1);
+                if (slash > 0 && isIgnoredDir(e.name.substring(0, slash), ignoredDirs, selection)) continue;
+                if (selection.shouldIgnore(e.name, name, false)) continue;
+                if (!selection.shouldIncludeFile(e.name, name)) continue;
+                visitor.file(e.name, name, reader.readContent());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        // Every pass opens and closes its own stream
+    }
+
+    private InputStream open() throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(archive), BUFFER_SIZE);
+        String n = archive.getFileName().toString().toLowerCase();
+        if (n.endsWith(".gz") || n.endsWith(".tgz")) {
+            try {
+                return new GZIPInputStream(in, BUFFER_SIZE);
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+        return in;
+    }
+
+    private static boolean isIgnoredDir(String dir, Map<String, Boolean> cache, Selection selection) {
+        Boolean cached = cache.get(dir);
+        if (cached != null) return cached;
+        int slash = dir.lastIndexOf('/');
+        boolean ignored = (slash > 0 && isIgnoredDir(dir.substring(0, slash), cache, selection))
+                || selection.shouldIgnore(dir, dir.substring(slash + 1), true);
+        cache.put(dir, ignored);
+        return ignored;
+    }
+
+    private static void generateTree(TreeVisitor visitor, Node dir, String rel, int depth, Selection selection) throws IOException {
+        var entries = dir.children.values().stream()
+                .filter(n -> !selection.shouldIgnore(rel + n.name, n.name, n.directory))
+                .sorted((n1, n2) -> {
+                    if (n1.directory && !n2.directory) return -1;
+                    if (!n1.directory && n2.directory) return 1;
+                    return n1.name.compareTo(n2.name);
+                })
+                .toList();
+
+        for (Node entry : entries) {
+            if (entry.directory) {
+                visitor.directory(depth, entry.name);
+                generateTree(visitor, entry, rel + entry.name + "/", depth + 1, selection);
+            } else {
+                visitor.file(depth, entry.name, entry.size);
+            }
+        }
+    }
+}
@@ -1,19 +1,13 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 public class Util {
-    public static boolean matchesNameOrPath(String relativePath, String name, java.util.Set<String> patterns) {
-        if (patterns == null || patterns.isEmpty()) return false;
-        if (patterns.contains(name)) return true;
-        String rel = relativePath.replace("\\", "/");
-        if (patterns.contains(rel)) return true;
-        for (String p : patterns) {
-            if (p == null || p.isEmpty()) continue;
-            String norm = p.replace("\\", "/");
-            if (rel.equals(norm)) return true;
-            if (rel.startsWith(norm.endsWith("/") ? norm : norm + "/")) return true;
-        }
-        return false;
-    }
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
 
     public static String relativizeSafe(Path root, Path path) {
         try {
@@ -27,5 +21,33 @@ public class Util {
         int idx = fileName.lastIndexOf('.');
         return idx >= 0 ? fileName.substring(idx).toLowerCase() : "";
     }
+
+    // Strict UTF-8 decode; malformed input is reported instead of silently replaced
+    public static String decodeUtf8(byte[] bytes) throws CharacterCodingException {
+        return StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(ByteBuffer.wrap(bytes))
+                .toString();
+    }
+
+    public static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String sha256Hex(byte[] bytes) {
+        byte[] digest = sha256(bytes);
+        char[] out = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            out[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+            out[i * 2 + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String(out);
+    }
 }
 